@@ -0,0 +1,55 @@
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt strength for this host at startup: the highest cost whose hash time stays
+ * under the target latency, never below {@code min-strength}. Each cost step doubles the work,
+ * so only the cheapest cost is measured and the rest is extrapolated.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE = "calibration-sample-password";
+    private static final int RUNS = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int resolve(BCryptProperties properties) {
+        if (properties.strength() > 0) {
+            return properties.strength();   // pinned, e.g. tests (4) or a mixed-hardware cluster
+        }
+
+        int min = properties.minStrength();
+        long baseNanos = measure(min);
+        long targetNanos = properties.targetLatency().toNanos();
+
+        int strength = min;
+        while (strength < properties.maxStrength() && baseNanos << (strength + 1 - min) <= targetNanos) {
+            strength++;
+        }
+
+        log.info("BCrypt strength {} selected (cost {} measured at {} ms, target {} ms)",
+                strength, min, baseNanos / 1_000_000, targetNanos / 1_000_000);
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE);   // warm-up: class loading, JIT of the inner loop
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            best = Math.min(best, System.nanoTime() - start);   // min filters out GC / scheduler noise
+        }
+        return best;
+    }
+
+    @ConfigurationProperties(prefix = "app.security.bcrypt")
+    public record BCryptProperties(@DefaultValue("0") int strength,          // 0 = calibrate at startup
+                                   @DefaultValue("250ms") Duration targetLatency,
+                                   @DefaultValue("10") int minStrength,
+                                   @DefaultValue("14") int maxStrength) {
+    }
+}
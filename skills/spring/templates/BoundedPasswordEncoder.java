@@ -0,0 +1,168 @@
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the wrapped encoder (BCrypt) on a dedicated pool with a bounded queue.
+ * Request threads only wait for the result; when the queue is full the call fails fast with
+ * {@link PasswordHashingBusyException} instead of burning every CPU on one login burst.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMs;
+    private final Timer queueWait;
+    private final Timer hashDuration;
+    private final Counter rejected;
+    private final Counter upgradesSkipped;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWaitMs = properties.maxWait().toMillis();
+
+        int threads = properties.threads() > 0
+                ? properties.threads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);   // leave cores for the API
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // executor.queued / executor.active / executor.completed tagged name=password-hashing
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+        this.queueWait = Timer.builder("password.hashing.queue.wait").register(meterRegistry);
+        this.hashDuration = Timer.builder("password.hashing.duration").register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+        this.upgradesSkipped = Counter.builder("password.hashing.upgrade.skipped").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * An upgrade costs one extra hash after a successful login. Skip it while logins are queueing;
+     * the hash is upgraded on a later, quieter login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return executor.getQueue().isEmpty()
+                && delegate.upgradeEncoding(encodedPassword);   // parses the prefix only, no hashing
+    }
+
+    /**
+     * View for {@code DaoAuthenticationProvider} only. There, the {@code encode()} that follows a
+     * {@code true} from {@code upgradeEncoding()} is the rehash of a password that was just verified.
+     * If the pool is saturated, that encode returns the stored hash instead of failing a correct login;
+     * the upgrade happens on a later login. Every other encode (registration, password change) stays strict.
+     */
+    public PasswordEncoder withBestEffortUpgrade() {
+        return new BestEffortUpgradeEncoder();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashDuration.recordCallable(hashing);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);   // still queued: skipped; already hashing: finishes, result dropped
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new PasswordHashingBusyException();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private final class BestEffortUpgradeEncoder implements PasswordEncoder {
+
+        // Stored hash being upgraded; set by upgradeEncoding(), consumed by the encode() right after it
+        private final ThreadLocal<String> upgrading = new ThreadLocal<>();
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            upgrading.remove();
+            return BoundedPasswordEncoder.this.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            boolean upgrade = BoundedPasswordEncoder.this.upgradeEncoding(encodedPassword);
+            if (upgrade) {
+                upgrading.set(encodedPassword);   // DaoAuthenticationProvider calls encode() next, same thread
+            }
+            return upgrade;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            String current = upgrading.get();
+            upgrading.remove();
+            if (current == null) {
+                return BoundedPasswordEncoder.this.encode(rawPassword);   // not an upgrade: strict
+            }
+            try {
+                return BoundedPasswordEncoder.this.encode(rawPassword);
+            } catch (PasswordHashingBusyException e) {
+                upgradesSkipped.increment();
+                return current;   // still valid for this password; updatePassword() sees no change
+            }
+        }
+    }
+
+    /** Thrown when the hashing pool is saturated. Mapped to 503 + Retry-After. */
+    public static class PasswordHashingBusyException extends RuntimeException {
+
+        public PasswordHashingBusyException() {
+            super("Too many sign-in attempts in progress. Please retry shortly.");
+        }
+    }
+
+    @ConfigurationProperties(prefix = "app.security.password-hashing")
+    public record PasswordHashingProperties(@DefaultValue("0") int threads,          // 0 = cores / 2
+                                            @DefaultValue("64") int queueCapacity,
+                                            @DefaultValue("2s") Duration maxWait) {
+    }
+}
@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers CORS preflights before the Spring Security filter chain, from headers precomputed per origin.
+ * Anything it can't answer with certainty (unknown origin, disallowed method or header, origin patterns)
+ * falls through to the chain, where Spring's {@code CorsFilter} applies the full rules.
+ */
+public class CorsPreflightFilter extends OncePerRequestFilter {
+
+    private final Map<String, PreflightHeaders> byOrigin;
+    private final List<String> allowedMethods;
+    private final boolean echoRequestHeaders;   // allowedHeaders = "*" with credentials: echo, never "*"
+    private final Set<String> allowedHeaderNames;   // lower-case; unused when echoing
+    private final Counter answered;
+    private final Counter delegated;
+
+    public CorsPreflightFilter(CorsConfiguration cors, MeterRegistry meterRegistry) {
+        List<String> origins = cors.getAllowedOrigins() != null ? cors.getAllowedOrigins() : List.of();
+        this.allowedMethods = cors.getAllowedMethods() != null ? cors.getAllowedMethods() : List.of();
+        List<String> allowedHeaders = cors.getAllowedHeaders() != null ? cors.getAllowedHeaders() : List.of();
+        this.echoRequestHeaders = allowedHeaders.contains(CorsConfiguration.ALL);
+        this.allowedHeaderNames = allowedHeaders.stream()
+                .map(header -> header.toLowerCase(Locale.ROOT))   // header names are case-insensitive
+                .collect(Collectors.toUnmodifiableSet());
+
+        String methods = String.join(", ", allowedMethods);
+        String headers = echoRequestHeaders ? null : String.join(", ", allowedHeaders);
+        String maxAge = cors.getMaxAge() != null ? cors.getMaxAge().toString() : null;
+        boolean credentials = Boolean.TRUE.equals(cors.getAllowCredentials());
+
+        this.byOrigin = origins.stream()
+                .filter(origin -> !CorsConfiguration.ALL.equals(origin))
+                .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                        origin -> new PreflightHeaders(origin, methods, headers, maxAge, credentials)));
+
+        this.answered = Counter.builder("http.cors.preflight").tag("result", "answered").register(meterRegistry);
+        this.delegated = Counter.builder("http.cors.preflight").tag("result", "delegated").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !CorsUtils.isPreFlightRequest(request);   // OPTIONS + Origin + Access-Control-Request-Method
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        PreflightHeaders headers = byOrigin.get(request.getHeader(HttpHeaders.ORIGIN));
+        String method = request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+        String requested = request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+        if (headers == null || !allowedMethods.contains(method) || !headersAllowed(requested)) {
+            delegated.increment();
+            filterChain.doFilter(request, response);   // let CorsFilter reject or handle it
+            return;
+        }
+
+        answered.increment();
+        headers.writeTo(response);
+        if (echoRequestHeaders && requested != null) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, requested);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);   // no body, no security chain, no dispatcher
+    }
+
+    /** {@code true} if every header in {@code Access-Control-Request-Headers} is allowed. */
+    private boolean headersAllowed(String requested) {
+        if (echoRequestHeaders || requested == null || requested.isBlank()) {
+            return true;
+        }
+        for (String header : requested.split(",")) {
+            String name = header.trim();
+            if (!name.isEmpty() && !allowedHeaderNames.contains(name.toLowerCase(Locale.ROOT))) {
+                return false;   // CorsFilter rejects it; answering 200 would approve a header the config forbids
+            }
+        }
+        return true;
+    }
+
+    private record PreflightHeaders(String origin, String methods, String headers, String maxAge, boolean credentials) {
+
+        private static final String VARY = String.join(", ",
+                HttpHeaders.ORIGIN, HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+
+        void writeTo(HttpServletResponse response) {
+            response.setHeader(HttpHeaders.VARY, VARY);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, methods);
+            if (headers != null && !headers.isEmpty()) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, headers);
+            }
+            if (credentials) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+            if (maxAge != null) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import java.time.Duration;
+
+/** ─── EVENT (UserSecurityChangedEvent.java) ───────────────────────── **/
+
+/**
+ * Published by every flow that changes what authentication depends on.
+ * The cached user is evicted after commit; security-relevant reasons also revoke issued tokens.
+ * {@code tokenVersion} is the user's version after the change: call {@code user.bumpTokenVersion()}
+ * first when the reason revokes tokens.
+ */
+public record UserSecurityChangedEvent(String username, Reason reason, int tokenVersion) {
+
+    public enum Reason {
+        PASSWORD_CHANGED,
+        LOCKED,
+        DISABLED,
+        ROLE_CHANGED,
+        DELETED,
+        PROFILE_CHANGED;   // name/email shown in the principal, tokens stay valid
+
+        public boolean revokesTokens() {
+            return this != PROFILE_CHANGED;
+        }
+    }
+}
+
+/** ─── SERVICE (CustomUserDetailsService.java) ─────────────────────── **/
+
+/**
+ * Bounded, self-refreshing cache in front of {@code userRepository.findByEmail()}.
+ * Entries are refreshed in the background after {@code refresh-after}; domain events evict them at once.
+ */
+@Service
+@EnableConfigurationProperties(CustomUserDetailsService.UserCacheProperties.class)
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+    private final UserRevocationRegistry revocationRegistry;
+    private final LoadingCache<String, User> users;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    UserRevocationRegistry revocationRegistry,
+                                    UserCacheProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.revocationRegistry = revocationRegistry;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .refreshAfterWrite(properties.refreshAfter())   // hot users reload in the background
+                .expireAfterWrite(properties.expireAfter())     // cold users are dropped
+                .recordStats()
+                .build(email -> userRepository.findByEmail(email).orElse(null));   // null = not cached
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.load.duration tagged cache=users
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        User user = users.get(email);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return user;
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login when upgradeEncoding() is true
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        if (newEncodedPassword.equals(userDetails.getPassword())) {
+            return userDetails;   // upgrade skipped on a saturated hashing pool: nothing to write
+        }
+        String email = userDetails.getUsername();
+        userRepository.updatePassword(email, newEncodedPassword);
+        users.invalidate(email);   // same password, new hash: no token revocation
+
+        // Never setPassword() on userDetails: it is the cached instance other threads are authenticating with.
+        // A fresh copy costs one SELECT, once per user per upgrade.
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
+
+    // AFTER_COMMIT: the next load is guaranteed to read the committed row
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        users.invalidate(event.username());
+        if (event.reason().revokesTokens()) {
+            revocationRegistry.revokeAll(event.username(), event.tokenVersion());   // older tokens rejected immediately
+        }
+    }
+
+    @ConfigurationProperties(prefix = "app.security.user-cache")
+    public record UserCacheProperties(@DefaultValue("10000") long maximumSize,
+                                      @DefaultValue("5m") Duration refreshAfter,
+                                      @DefaultValue("30m") Duration expireAfter) {
+    }
+}
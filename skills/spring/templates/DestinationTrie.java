@@ -0,0 +1,148 @@
+package com.example.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+
+/**
+ * Destination index keyed by path segment ({@code /topic/room.42} → {@code topic}, {@code room.42}).
+ * A lookup walks one node per segment, so its cost depends on the destination's depth, not on how many
+ * subscriptions exist.
+ *
+ * <p>Supported subscription patterns, per segment: a literal, {@code *} (any one segment),
+ * {@code prefix*} (e.g. {@code chat.*}) and a trailing {@code **} (this level and everything below).
+ * Anything else ({@code ?}, {@code {var}}, {@code **} in the middle) is kept in a side list and matched
+ * with {@link AntPathMatcher} on every lookup: correct, but linear, so keep such subscriptions rare.
+ *
+ * <p>Reads never lock: children live in {@code ConcurrentHashMap}s and each leaf value is an immutable
+ * object replaced wholesale (copy-on-write). Writes are serialized on the trie; subscribe/unsubscribe
+ * is orders of magnitude rarer than publish.
+ */
+public class DestinationTrie<V> {
+
+    private static final String SEPARATOR = "/";
+    private static final String ANY_SEGMENT = "*";
+    private static final String ANY_DEPTH = "**";
+
+    private final Node<V> root = new Node<>("");
+    private final Map<String, Node<V>> unindexed = new ConcurrentHashMap<>();   // pattern -> value holder
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    /** {@code true} if every segment is a literal, {@code *}, {@code prefix*}, or a trailing {@code **}. */
+    private static boolean isIndexable(String destination) {
+        String[] segments = StringUtils.tokenizeToStringArray(destination, SEPARATOR);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (ANY_DEPTH.equals(segment)) {
+                if (i != segments.length - 1) {
+                    return false;
+                }
+            } else if (segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0
+                    || segment.indexOf('*') >= 0 && segment.indexOf('*') != segment.length() - 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the value stored for {@code destination} with {@code change(current)}; {@code current} is
+     * {@code null} when nothing is stored, and returning {@code null} removes the entry (empty nodes are pruned).
+     * Values must be immutable (readers may still hold the previous one) and {@code change} free of side effects.
+     */
+    public synchronized void update(String destination, UnaryOperator<V> change) {
+        if (!isIndexable(destination)) {
+            Node<V> holder = unindexed.computeIfAbsent(destination, d -> new Node<>(d));
+            holder.value = change.apply(holder.value);
+            if (holder.value == null) {
+                unindexed.remove(destination);
+            }
+            return;
+        }
+        update(root, StringUtils.tokenizeToStringArray(destination, SEPARATOR), 0, change);
+    }
+
+    /** Passes every value whose pattern matches {@code destination} (exact and wildcard) to {@code sink}. */
+    public void match(String destination, Consumer<V> sink) {
+        match(root, StringUtils.tokenizeToStringArray(destination, SEPARATOR), 0, sink);
+        if (!unindexed.isEmpty()) {
+            for (Node<V> holder : unindexed.values()) {
+                V value = holder.value;
+                if (value != null && pathMatcher.match(holder.prefix, destination)) {
+                    sink.accept(value);
+                }
+            }
+        }
+    }
+
+    private void update(Node<V> node, String[] segments, int index, UnaryOperator<V> change) {
+        if (index == segments.length) {
+            node.value = change.apply(node.value);
+            return;
+        }
+        String segment = segments[index];
+        Map<String, Node<V>> branch = node.branchFor(segment);
+        Node<V> child = branch.get(segment);
+        if (child == null) {
+            if (change.apply(null) == null) {
+                return;   // removing something that was never there
+            }
+            child = new Node<>(segment.endsWith(ANY_SEGMENT) ? segment.substring(0, segment.length() - 1) : segment);
+            branch.put(segment, child);
+        }
+        update(child, segments, index + 1, change);
+        if (child.isEmpty()) {
+            branch.remove(segment);   // keeps the trie proportional to live destinations
+        }
+    }
+
+    private void match(Node<V> node, String[] segments, int index, Consumer<V> sink) {
+        Node<V> tail = node.wildcards.get(ANY_DEPTH);   // "/topic/**" also matches "/topic"
+        if (tail != null && tail.value != null) {
+            sink.accept(tail.value);
+        }
+        if (index == segments.length) {
+            if (node.value != null) {
+                sink.accept(node.value);
+            }
+            return;
+        }
+        String segment = segments[index];
+        Node<V> exact = node.literals.get(segment);
+        if (exact != null) {
+            match(exact, segments, index + 1, sink);
+        }
+        if (!node.wildcards.isEmpty()) {   // usually empty: a handful of entries at most
+            for (Node<V> wildcard : node.wildcards.values()) {
+                if (wildcard != tail && segment.startsWith(wildcard.prefix)) {   // "*" has an empty prefix
+                    match(wildcard, segments, index + 1, sink);
+                }
+            }
+        }
+    }
+
+    private static final class Node<V> {
+
+        final Map<String, Node<V>> literals = new ConcurrentHashMap<>();
+        final Map<String, Node<V>> wildcards = new ConcurrentHashMap<>();   // "*", "chat.*", "**"
+        final String prefix;   // wildcard nodes: the part before '*'; unindexed holders: the full pattern
+        volatile V value;
+
+        Node(String prefix) {
+            this.prefix = prefix;
+        }
+
+        Map<String, Node<V>> branchFor(String segment) {
+            return segment.endsWith(ANY_SEGMENT) ? wildcards : literals;
+        }
+
+        boolean isEmpty() {
+            return value == null && literals.isEmpty() && wildcards.isEmpty();
+        }
+    }
+}
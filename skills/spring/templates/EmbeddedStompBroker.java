@@ -0,0 +1,60 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+
+/**
+ * Test-only stand-in for the production STOMP broker: an in-memory ActiveMQ Artemis with a STOMP
+ * acceptor on a free port, started once per JVM and shared by every integration test.
+ * Lives in src/test; needs {@code artemis-server} and {@code artemis-stomp-protocol} (test scope).
+ */
+public final class EmbeddedStompBroker {
+
+    private static EmbeddedActiveMQ server;
+    private static String address;
+
+    private EmbeddedStompBroker() {
+    }
+
+    /** Starts the broker on first use and returns its {@code host:port} for {@code app.websocket.broker.relay.addresses}. */
+    public static synchronized String address() {
+        if (server == null) {
+            int port = freePort();
+            Configuration config = new ConfigurationImpl()
+                    .setPersistenceEnabled(false)   // in-memory: nothing to clean up between runs
+                    .setSecurityEnabled(false)      // the relay's guest/guest login is accepted as-is
+                    .addAcceptorConfiguration("stomp", "tcp://localhost:" + port
+                            + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+            try {
+                server = new EmbeddedActiveMQ().setConfiguration(config);
+                server.start();
+            } catch (Exception ex) {
+                throw new IllegalStateException("Embedded STOMP broker failed to start", ex);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(EmbeddedStompBroker::stop));
+            address = "localhost:" + port;
+        }
+        return address;
+    }
+
+    private static void stop() {
+        try {
+            server.stop();
+        } catch (Exception ignored) {
+            // JVM is exiting anyway
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Holds every accepted signing key, decoded once.
+ * Signing uses the active key; verification picks the key by the token's {@code kid} header.
+ */
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final Map<String, JwtKeyStrategy> strategies;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(JwtKeyProperties properties, List<JwtKeyStrategy> strategies) {
+        this.strategies = strategies.stream()
+                .collect(Collectors.toUnmodifiableMap(JwtKeyStrategy::algorithm, s -> s));
+        reload(properties);
+    }
+
+    /** Swaps the whole ring atomically. Call after adding/retiring a key (no restart needed). */
+    public void reload(JwtKeyProperties properties) {
+        JwtKeyStrategy strategy = strategies.get(properties.algorithm());
+        if (strategy == null) {
+            throw new IllegalStateException("Unsupported jwt.algorithm: " + properties.algorithm());
+        }
+
+        // HMAC verifies with the secret itself; asymmetric algorithms verify with public keys only
+        Map<String, String> verificationMaterial = strategy.publishable()
+                ? properties.publicKeys()
+                : properties.keys();
+        Map<String, Key> verificationKeys = verificationMaterial.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        Map.Entry::getKey,
+                        e -> strategy.verificationKey(e.getValue())));
+
+        // Verification-only services configure public-keys and no active-kid
+        ActiveKey active = null;
+        if (properties.activeKid() != null) {
+            String material = properties.keys().get(properties.activeKid());
+            if (material == null) {
+                throw new IllegalStateException("jwt.active-kid not found in jwt.keys: " + properties.activeKid());
+            }
+            if (strategy.publishable() && !verificationKeys.containsKey(properties.activeKid())) {
+                // Would sign tokens this same service (and every consumer of the JWKS) rejects
+                throw new IllegalStateException("jwt.active-kid not found in jwt.public-keys: " + properties.activeKid());
+            }
+            active = new ActiveKey(properties.activeKid(), strategy.signingKey(material));
+        }
+
+        List<PublicJwk<?>> jwks = strategy.publishable()
+                ? verificationKeys.entrySet().stream()
+                        .<PublicJwk<?>>map(e -> Jwks.builder().key((PublicKey) e.getValue()).id(e.getKey()).build())
+                        .toList()
+                : List.of();
+
+        this.snapshot = new Snapshot(active, verificationKeys, jwks);
+    }
+
+    /** kid + key read from the same snapshot, so a concurrent reload can't mix them. */
+    public ActiveKey active() {
+        ActiveKey active = snapshot.active();
+        if (active == null) {
+            throw new IllegalStateException("This service is verification-only (no jwt.active-kid)");
+        }
+        return active;
+    }
+
+    /** Public keys for /.well-known/jwks.json; empty for HMAC. Built once per reload. */
+    public List<PublicJwk<?>> publicJwks() {
+        return snapshot.publicJwks();
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        Snapshot current = snapshot;
+        String kid = header.getKeyId();
+        if (kid == null && current.active() != null) {
+            return current.verificationKeys().get(current.active().kid()); // tokens issued before kid stamping
+        }
+        Key key = kid != null ? current.verificationKeys().get(kid) : null;
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    public record ActiveKey(String kid, Key key) {
+    }
+
+    private record Snapshot(ActiveKey active, Map<String, Key> verificationKeys, List<PublicJwk<?>> publicJwks) {
+    }
+
+    @ConfigurationProperties(prefix = "jwt")
+    public record JwtKeyProperties(@DefaultValue("HMAC") String algorithm,
+                                   String activeKid,
+                                   @DefaultValue Map<String, String> keys,
+                                   @DefaultValue Map<String, String> publicKeys) {
+    }
+}
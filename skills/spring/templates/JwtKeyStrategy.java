@@ -0,0 +1,121 @@
+/** ─── STRATEGY (JwtKeyStrategy.java) ──────────────────────────────── **/
+
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * Turns configured key material into jjwt keys for one algorithm family.
+ * jjwt picks the JWS algorithm from the key type, so no algorithm switch is needed when signing.
+ */
+public interface JwtKeyStrategy {
+
+    /** Value of {@code jwt.algorithm} this strategy handles (HMAC, EdDSA, ES256). */
+    String algorithm();
+
+    /** Key used to sign: the shared secret, or a PKCS#8 private key. */
+    Key signingKey(String base64);
+
+    /** Key used to verify: the shared secret, or an X.509 public key. */
+    Key verificationKey(String base64);
+
+    /** Asymmetric public keys may be published as JWKS; HMAC secrets never. */
+    default boolean publishable() {
+        return true;
+    }
+}
+
+/** ─── HMAC (HmacKeyStrategy.java) ─────────────────────────────────── **/
+
+@Component
+public class HmacKeyStrategy implements JwtKeyStrategy {
+
+    @Override
+    public String algorithm() {
+        return "HMAC"; // HS256/384/512 chosen by jjwt from the secret length
+    }
+
+    @Override
+    public Key signingKey(String base64) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64));
+    }
+
+    @Override
+    public Key verificationKey(String base64) {
+        return signingKey(base64); // same shared secret
+    }
+
+    @Override
+    public boolean publishable() {
+        return false;
+    }
+}
+
+/** ─── Ed25519 (Ed25519KeyStrategy.java) ───────────────────────────── **/
+
+@Component
+public class Ed25519KeyStrategy implements JwtKeyStrategy {
+
+    @Override
+    public String algorithm() {
+        return "EdDSA";
+    }
+
+    @Override
+    public Key signingKey(String base64) {
+        return AsymmetricKeys.privateKey("Ed25519", base64);
+    }
+
+    @Override
+    public Key verificationKey(String base64) {
+        return AsymmetricKeys.publicKey("Ed25519", base64);
+    }
+}
+
+/** ─── ES256 (Es256KeyStrategy.java) ───────────────────────────────── **/
+
+@Component
+public class Es256KeyStrategy implements JwtKeyStrategy {
+
+    @Override
+    public String algorithm() {
+        return "ES256";
+    }
+
+    @Override
+    public Key signingKey(String base64) {
+        return AsymmetricKeys.privateKey("EC", base64); // P-256 key -> ES256
+    }
+
+    @Override
+    public Key verificationKey(String base64) {
+        return AsymmetricKeys.publicKey("EC", base64);
+    }
+}
+
+/** ─── HELPER (AsymmetricKeys.java) ────────────────────────────────── **/
+
+final class AsymmetricKeys {
+
+    private AsymmetricKeys() {
+    }
+
+    static Key privateKey(String keyFactoryAlgorithm, String base64) {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm)
+                    .generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(base64)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid " + keyFactoryAlgorithm + " private key", e);
+        }
+    }
+
+    static Key publicKey(String keyFactoryAlgorithm, String base64) {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm)
+                    .generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(base64)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid " + keyFactoryAlgorithm + " public key", e);
+        }
+    }
+}
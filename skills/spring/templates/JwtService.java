@@ -1,18 +1,37 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
-
-import javax.crypto.SecretKey;
+import java.util.stream.Stream;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
-
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    @Value("${jwt.claims-profile:STANDARD}")
+    private ClaimsProfile claimsProfile;
+
+    private final JwtKeyRing keyRing;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenClock clock;
+    private final JwtParser parser;
+
+    public JwtService(JwtKeyRing keyRing, VerifiedTokenCache tokenCache, TokenClock clock) {
+        this.keyRing = keyRing;
+        this.tokenCache = tokenCache;
+        this.clock = clock;
+        this.parser = Jwts.parser()   // immutable, thread-safe
+                .keyLocator(keyRing)
+                .clock(clock.asJjwtClock())
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -25,38 +44,189 @@ public class JwtService {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    public String generateToken(User user) {
+        return generateToken(userClaims(user), user);
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder()
-                .claims(extraClaims)
-                .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
-                .compact();
+        long now = clock.currentTimeMillis(); // one read: iat and exp can't drift apart
+        return buildToken(extraClaims, userDetails, keyRing.active(), new Date(now), new Date(now + jwtExpiration));
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    /**
+     * Mints one token per principal in parallel. Key, iat and exp are resolved once for the whole batch.
+     * The stream is lazy and parallel: consume it with a thread-safe sink or collect it.
+     */
+    public Stream<IssuedToken> generateTokens(Collection<? extends UserDetails> principals) {
+        JwtKeyRing.ActiveKey signingKey = keyRing.active();
+        long now = clock.currentTimeMillis();
+        Date issuedAt = new Date(now);                     // shared read-only across workers
+        Date expiration = new Date(now + jwtExpiration);
+
+        return principals.parallelStream()
+                .map(principal -> new IssuedToken(
+                        principal.getUsername(),
+                        buildToken(principal instanceof User user ? userClaims(user) : Map.of(),
+                                principal, signingKey, issuedAt, expiration)));
     }
 
     public long getExpirationTime() {
         return jwtExpiration;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    /**
+     * Verifies the signature and parses the token exactly once, reusing a cached result when present.
+     * Throws {@link JwtException} (incl. {@link ExpiredJwtException}) if the token is invalid.
+     */
+    public VerifiedToken validate(String token) {
+        return validate(token, true);
+    }
+
+    /** Pass {@code useCache = false} on sensitive paths to force a full signature check. */
+    public VerifiedToken validate(String token, boolean useCache) {
+        return useCache
+                ? tokenCache.get(token, this::verify)
+                : verify(token);
+    }
+
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(validate(token), userDetails);
+    }
+
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.isValidFor(userDetails, clock.epochSecond());
+    }
+
+    private VerifiedToken verify(String token) {
+        return VerifiedToken.from(extractAllClaims(token));
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private Map<String, Object> userClaims(User user) {
+        ClaimsProfile names = claimsProfile;
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put(names.userId, user.getId());
+        extraClaims.put(names.role, names == ClaimsProfile.COMPACT
+                ? user.getRole().getTokenCode()
+                : user.getRole().name());
+        extraClaims.put(names.fullName, user.getFullName());
+        if (user.getStudentId() != null) {
+            extraClaims.put(names.studentId, user.getStudentId());
+        }
+        extraClaims.put(names.tokenVersion, user.getTokenVersion());   // checked by UserRevocationRegistry
+        return extraClaims;
+    }
+
+    private String buildToken(Map<String, Object> extraClaims,
+                              UserDetails userDetails,
+                              JwtKeyRing.ActiveKey signingKey,
+                              Date issuedAt,
+                              Date expiration) {
+        return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .claims(extraClaims)
+                .subject(userDetails.getUsername())
+                .id(UUID.randomUUID().toString())          // jti, used for revocation
+                .issuedAt(issuedAt)
+                .expiration(expiration)
+                .signWith(signingKey.key())
+                .compact();
+    }
+
+    public record IssuedToken(String username, String token) {
+    }
+
+    /**
+     * Claim names per profile. COMPACT shortens names and sends the role as an int code.
+     * Decoding always accepts both, so switching profiles never breaks tokens already issued.
+     */
+    public enum ClaimsProfile {
+        STANDARD("userId", "role", "fullName", "studentId", "tokenVersion"),
+        COMPACT("uid", "r", "n", "sid", "tv");
+
+        final String userId;
+        final String role;
+        final String fullName;
+        final String studentId;
+        final String tokenVersion;
+
+        ClaimsProfile(String userId, String role, String fullName, String studentId, String tokenVersion) {
+            this.userId = userId;
+            this.role = role;
+            this.fullName = fullName;
+            this.studentId = studentId;
+            this.tokenVersion = tokenVersion;
+        }
     }
 
-    private SecretKey getSignInKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    /**
+     * Immutable result of a single verify + parse. Safe to pass through the filter chain.
+     * Times are epoch seconds (JWT NumericDate), so expiry checks are primitive comparisons.
+     */
+    public record VerifiedToken(String subject,
+                                String id,
+                                long issuedAt,
+                                long expiresAt,
+                                String role,
+                                Map<String, Object> claims) {
+
+        static VerifiedToken from(Claims claims) {
+            Date issuedAt = claims.getIssuedAt();
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.getId(),
+                    issuedAt != null ? issuedAt.getTime() / 1000 : 0L,
+                    claims.getExpiration().getTime() / 1000,
+                    decodeRole(claims),
+                    Collections.unmodifiableMap(new LinkedHashMap<>(claims)));
+        }
+
+        private static String decodeRole(Claims claims) {
+            Object code = claims.get(ClaimsProfile.COMPACT.role);
+            return code instanceof Number n
+                    ? Role.fromTokenCode(n.intValue()).name()
+                    : claims.get(ClaimsProfile.STANDARD.role, String.class);
+        }
+
+        public <T> T claim(String name, Class<T> type) {
+            return type.cast(claims.get(name));
+        }
+
+        // ─── Typed accessors (work for both profiles) ──────────────────────
+
+        public Long userId() {
+            return longClaim(ClaimsProfile.STANDARD.userId, ClaimsProfile.COMPACT.userId);
+        }
+
+        public String fullName() {
+            Object value = claims.getOrDefault(ClaimsProfile.STANDARD.fullName, claims.get(ClaimsProfile.COMPACT.fullName));
+            return (String) value;
+        }
+
+        public Long studentId() {
+            return longClaim(ClaimsProfile.STANDARD.studentId, ClaimsProfile.COMPACT.studentId);
+        }
+
+        /** The user's token version at issue time; 0 for tokens minted without it. */
+        public long tokenVersion() {
+            Long version = longClaim(ClaimsProfile.STANDARD.tokenVersion, ClaimsProfile.COMPACT.tokenVersion);
+            return version != null ? version : 0L;
+        }
+
+        private Long longClaim(String standardName, String compactName) {
+            Object value = claims.getOrDefault(standardName, claims.get(compactName));
+            return value instanceof Number n ? n.longValue() : null;
+        }
+
+        public boolean isExpired(long nowEpochSecond) {
+            return expiresAt <= nowEpochSecond;
+        }
+
+        public boolean isValidFor(UserDetails userDetails, long nowEpochSecond) {
+            return subject.equals(userDetails.getUsername()) && !isExpired(nowEpochSecond);
+        }
     }
 }
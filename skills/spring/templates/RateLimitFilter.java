@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process rate limiter. One instance per key type: IP runs before {@code JwtAuthenticationFilter}
+ * (abusive traffic never pays for JWT parsing), PRINCIPAL runs after it.
+ * Each bucket is a single {@link AtomicLong} updated with a CAS loop (GCRA) — no locks, no timer threads.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] TOO_MANY_REQUESTS =
+            "{\"success\":false,\"message\":\"Too many requests\",\"data\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private final KeyType keyType;
+    private final List<CompiledRule> rules;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimitFilter(KeyType keyType, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.keyType = keyType;
+        this.rules = properties.rules().stream()
+                .filter(rule -> rule.key() == keyType)
+                .map(rule -> new CompiledRule(rule, meterRegistry))
+                .toList();
+
+        // An idle bucket refills completely within its rule's period: evicting it after that loses nothing
+        Duration idle = properties.rules().stream()
+                .map(Rule::per)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+        this.buckets = Caffeine.newBuilder()   // striped internally: no global lock on the hot path
+                .maximumSize(properties.maxKeys())
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CompiledRule rule = match(request);
+        String key = rule != null ? keyType.resolve(request) : null;
+        if (key == null) {
+            filterChain.doFilter(request, response);   // no rule, or anonymous on a PRINCIPAL rule
+            return;
+        }
+
+        AtomicLong bucket = buckets.get(rule.id + '|' + key, k -> new AtomicLong(Long.MIN_VALUE));   // full
+        long waitNanos = rule.tryAcquire(bucket, System.nanoTime());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rule.rejected.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(TOO_MANY_REQUESTS);
+    }
+
+    private CompiledRule match(HttpServletRequest request) {
+        // Within the application (no server.servlet.context-path) and decoded, like the rule patterns
+        PathContainer path = PathContainer.parsePath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        for (CompiledRule rule : rules) {   // first match wins: list specific paths first
+            if (rule.pattern.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public enum KeyType {
+        IP {
+            @Override
+            String resolve(HttpServletRequest request) {
+                return request.getRemoteAddr();   // set server.forward-headers-strategy behind a proxy
+            }
+        },
+        PRINCIPAL {
+            @Override
+            String resolve(HttpServletRequest request) {
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                return auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)
+                        ? auth.getName()
+                        : null;
+            }
+        };
+
+        abstract String resolve(HttpServletRequest request);
+    }
+
+    /**
+     * GCRA: the bucket stores the "theoretical arrival time" (TAT) of the next request.
+     * Each request pushes TAT forward by {@code per / capacity}; it is allowed while TAT stays within
+     * {@code per} of now — equivalent to a token bucket of {@code capacity} refilled over {@code per}.
+     */
+    private static final class CompiledRule {
+
+        private final String id;
+        private final PathPattern pattern;
+        private final long intervalNanos;
+        private final long periodNanos;
+        private final Counter rejected;
+
+        CompiledRule(Rule rule, MeterRegistry meterRegistry) {
+            if (rule.capacity() <= 0 || rule.per() == null || rule.per().isNegative() || rule.per().isZero()) {
+                throw new IllegalArgumentException("app.rate-limit rule " + rule.path()
+                        + ": capacity and per must be > 0 (got " + rule.capacity() + " per " + rule.per() + ")");
+            }
+            this.id = rule.path();
+            this.pattern = PathPatternParser.defaultInstance.parse(rule.path());
+            this.periodNanos = rule.per().toNanos();
+            this.intervalNanos = periodNanos / rule.capacity();
+            this.rejected = Counter.builder("http.server.requests.rate-limited")
+                    .tag("rule", rule.path())
+                    .tag("key", rule.key().name())
+                    .register(meterRegistry);
+        }
+
+        /** Returns 0 if allowed, otherwise the nanos until the next request would be allowed. */
+        long tryAcquire(AtomicLong bucket, long now) {
+            while (true) {
+                long tat = bucket.get();
+                long next = Math.max(tat, now) + intervalNanos;
+                long overshoot = next - now - periodNanos;
+                if (overshoot > 0) {
+                    return overshoot;   // denied: state unchanged
+                }
+                if (bucket.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    @ConfigurationProperties(prefix = "app.rate-limit")
+    public record RateLimitProperties(@DefaultValue("100000") long maxKeys,   // per key type
+                                      @DefaultValue List<Rule> rules) {
+    }
+
+    public record Rule(String path, KeyType key, long capacity, Duration per) {
+    }
+}
@@ -1,14 +1,25 @@
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties({
+        BoundedPasswordEncoder.PasswordHashingProperties.class,
+        BCryptCostCalibrator.BCryptProperties.class,
+        RateLimitFilter.RateLimitProperties.class})
 @RequiredArgsConstructor
 public class SecurityConfiguration {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final BCryptCostCalibrator.BCryptProperties bcryptProperties;
+    private final BoundedPasswordEncoder.PasswordHashingProperties passwordHashingProperties;
+    private final RateLimitFilter.RateLimitProperties rateLimitProperties;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -21,23 +32,49 @@ public class SecurityConfiguration {
                         .frameOptions(HeadersConfigurer.FrameOptionsConfig::deny))
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/public/**").permitAll()
-                        .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
-                        .requestMatchers("/error").permitAll()
-                        .anyRequest().authenticated())
+                .authorizeHttpRequests(auth -> auth.anyRequest().access(authorizationRules()))
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Not beans on purpose: a @Component filter would also be registered as a servlet filter
+                .addFilterBefore(new RateLimitFilter(RateLimitFilter.KeyType.IP, rateLimitProperties, meterRegistry),
+                        JwtAuthenticationFilter.class)
+                .addFilterAfter(new RateLimitFilter(RateLimitFilter.KeyType.PRINCIPAL, rateLimitProperties, meterRegistry),
+                        JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // Compiled once into a path trie: lookup cost follows path depth, not rule count
+    private TrieAuthorizationManager authorizationRules() {
+        return TrieAuthorizationManager.builder()
+                .rule("/api/auth/**", TrieAuthorizationManager.permitAll())
+                .rule("/api/public/**", TrieAuthorizationManager.permitAll())
+                .rule(HttpMethod.OPTIONS, "/**", TrieAuthorizationManager.permitAll())
+                .rule("/swagger-ui/**", TrieAuthorizationManager.permitAll())
+                .rule("/v3/api-docs/**", TrieAuthorizationManager.permitAll())
+                .rule("/error", TrieAuthorizationManager.permitAll())
+                .anyRequest(AuthenticatedAuthorizationManager.authenticated());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    // Answers preflights before springSecurityFilterChain, from headers precomputed per origin
+    @Bean
+    public FilterRegistrationBean<CorsPreflightFilter> corsPreflightFilter() {
+        FilterRegistrationBean<CorsPreflightFilter> registration =
+                new FilterRegistrationBean<>(new CorsPreflightFilter(corsConfiguration(), meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    private CorsConfiguration corsConfiguration() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList(
                 "https://your-frontend.vercel.app",
@@ -47,23 +84,29 @@ public class SecurityConfiguration {
         configuration.setExposedHeaders(Arrays.asList("Content-Disposition", "Authorization"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", configuration);
-        return source;
+        return configuration;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public BoundedPasswordEncoder passwordEncoder() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(BCryptCostCalibrator.resolve(bcryptProperties));
+
+        // {bcrypt}-prefixed hashes; legacy unprefixed hashes still match and are upgraded on login
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // BCrypt runs on its own bounded pool, never on Tomcat request threads
+        return new BoundedPasswordEncoder(delegating, passwordHashingProperties, meterRegistry);
     }
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
+        authProvider.setPasswordEncoder(passwordEncoder().withBestEffortUpgrade());   // a busy pool never fails a correct login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);   // rehash-on-login
+        // Throttled attempts are rejected before the user query and BCrypt
+        return new ThrottledAuthenticationProvider(authProvider, loginAttemptTracker);
     }
 
     @Bean
@@ -0,0 +1,295 @@
+package com.example.config;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * In-process STOMP broker that replaces {@code enableSimpleBroker()}.
+ *
+ * <p>Subscribe/unsubscribe/disconnect are applied on the inbound thread before it returns, as in the simple
+ * broker: a client that subscribes and then publishes (or waits for a receipt) sees its own messages.
+ * Subscriptions live in a {@link DestinationTrie}: exact and wildcard lookups cost one node per segment
+ * and never lock. Message work is spread over N single-threaded shards: each destination is published
+ * from one shard (hash of the destination), and subscriber arrays are copy-on-write and pre-split into
+ * lanes by session, so a broadcast to 10k subscribers is delivered by all shards in parallel while each
+ * session still receives messages in order.
+ */
+public class ShardedBrokerMessageHandler extends AbstractBrokerMessageHandler {
+
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    private final Shard[] shards;
+    private final DestinationTrie<Lanes> destinations = new DestinationTrie<>();   // exact + wildcard subscriptions
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();   // session -> sub id -> destination
+
+    public ShardedBrokerMessageHandler(SubscribableChannel clientInboundChannel,
+                                       MessageChannel clientOutboundChannel,
+                                       SubscribableChannel brokerChannel,
+                                       Collection<String> destinationPrefixes,
+                                       int shardCount,
+                                       int queueCapacity,
+                                       MeterRegistry meterRegistry) {
+        super(clientInboundChannel, clientOutboundChannel, brokerChannel, destinationPrefixes);
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, queueCapacity, meterRegistry);
+        }
+    }
+
+    // Executors are (re)created on every start: a SmartLifecycle stop()/start() must not leave dead shards.
+    // stop() waits for the old executors, so a shard never has two threads delivering at once.
+    @Override
+    protected void startInternal() {
+        for (Shard shard : shards) {
+            shard.start();
+        }
+        publishBrokerAvailableEvent();
+    }
+
+    @Override
+    protected void stopInternal() {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        publishBrokerUnavailableEvent();
+    }
+
+    @Override
+    protected void handleMessageInternal(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+
+        if (type == SimpMessageType.MESSAGE) {
+            if (checkDestinationPrefix(destination)) {
+                Shard owner = shardFor(destination);
+                owner.executeMessage(() -> owner.publish(destination, message));
+            }
+        } else if (type == SimpMessageType.SUBSCRIBE) {
+            String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+            if (checkDestinationPrefix(destination) && subscriptionId != null) {
+                subscribe(sessionId, subscriptionId, destination);   // synchronous: visible to the next publish
+            }
+        } else if (type == SimpMessageType.UNSUBSCRIBE) {
+            unsubscribe(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(headers));
+        } else if (type == SimpMessageType.CONNECT) {
+            sendAck(SimpMessageType.CONNECT_ACK, sessionId, message);
+        } else if (type == SimpMessageType.DISCONNECT) {
+            disconnect(sessionId);
+            sendAck(SimpMessageType.DISCONNECT_ACK, sessionId, message);
+        }
+    }
+
+    // ─── Subscriptions (inbound thread) ────────────────────────────────
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        String previous = sessions.computeIfAbsent(sessionId, s -> new ConcurrentHashMap<>()).put(subscriptionId, destination);
+        Subscriber subscriber = new Subscriber(sessionId, subscriptionId);
+        if (previous != null) {
+            removeSubscriber(previous, subscriber);   // re-used subscription id
+        }
+        addSubscriber(destination, subscriber);
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        String destination = subscriptions != null && subscriptionId != null ? subscriptions.remove(subscriptionId) : null;
+        if (destination != null) {
+            removeSubscriber(destination, new Subscriber(sessionId, subscriptionId));
+        }
+    }
+
+    private void disconnect(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.forEach((subscriptionId, destination) ->
+                    removeSubscriber(destination, new Subscriber(sessionId, subscriptionId)));
+        }
+    }
+
+    // The trie serializes writers itself; publishers read the previous or the new Lanes, never a partial one
+    private void addSubscriber(String destination, Subscriber subscriber) {
+        destinations.update(destination, lanes ->
+                (lanes != null ? lanes : Lanes.empty(shards.length)).with(laneFor(subscriber.sessionId()), subscriber));
+    }
+
+    private void removeSubscriber(String destination, Subscriber subscriber) {
+        destinations.update(destination, lanes -> {
+            if (lanes == null) {
+                return null;
+            }
+            Lanes updated = lanes.without(laneFor(subscriber.sessionId()), subscriber);
+            return updated.isEmpty() ? null : updated;   // null prunes the trie node
+        });
+    }
+
+    private void sendAck(SimpMessageType type, String sessionId, Message<?> request) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(SimpMessageHeaderAccessor.getUser(request.getHeaders()));
+        accessor.setHeader(type == SimpMessageType.CONNECT_ACK
+                ? SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER
+                : SimpMessageHeaderAccessor.DISCONNECT_MESSAGE_HEADER, request);
+        if (type == SimpMessageType.CONNECT_ACK) {
+            accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] {0, 0});
+        }
+        getClientOutboundChannelForSession(sessionId)
+                .send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    private void deliver(Subscriber[] subscribers, Message<?> message) {
+        Object payload = message.getPayload();
+        for (Subscriber subscriber : subscribers) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(subscriber.sessionId());
+            accessor.setSubscriptionId(subscriber.subscriptionId());
+            accessor.copyHeadersIfAbsent(message.getHeaders());
+            accessor.setLeaveMutable(true);
+            try {
+                // Per-session channel: honours setPreservePublishOrder on the multi-threaded outbound pool
+                getClientOutboundChannelForSession(subscriber.sessionId())
+                        .send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+            } catch (RuntimeException ex) {
+                logger.error("Failed to send " + message + " to session " + subscriber.sessionId(), ex);
+            }
+        }
+    }
+
+    private Shard shardFor(String key) {
+        return shards[Math.floorMod(key.hashCode(), shards.length)];
+    }
+
+    private int laneFor(String sessionId) {
+        return Math.floorMod(sessionId.hashCode(), shards.length);
+    }
+
+    private record Subscriber(String sessionId, String subscriptionId) {
+    }
+
+    /** Immutable: every change builds a new instance (copy-on-write), so readers never lock. */
+    private record Lanes(Subscriber[][] byLane) {
+
+        static Lanes empty(int lanes) {
+            Subscriber[][] byLane = new Subscriber[lanes][];
+            Arrays.fill(byLane, NO_SUBSCRIBERS);
+            return new Lanes(byLane);
+        }
+
+        Lanes with(int lane, Subscriber subscriber) {
+            Subscriber[][] copy = byLane.clone();
+            Subscriber[] current = copy[lane];
+            copy[lane] = Arrays.copyOf(current, current.length + 1);
+            copy[lane][current.length] = subscriber;
+            return new Lanes(copy);
+        }
+
+        Lanes without(int lane, Subscriber subscriber) {
+            Subscriber[] current = byLane[lane];
+            Subscriber[] remaining = Arrays.stream(current)
+                    .filter(s -> !s.equals(subscriber))
+                    .toArray(Subscriber[]::new);
+            if (remaining.length == current.length) {
+                return this;
+            }
+            Subscriber[][] copy = byLane.clone();
+            copy[lane] = remaining;
+            return new Lanes(copy);
+        }
+
+        boolean isEmpty() {
+            return Arrays.stream(byLane).allMatch(lane -> lane.length == 0);
+        }
+    }
+
+    private final class Shard {
+
+        private static final long STOP_TIMEOUT_SECONDS = 5;
+
+        private final int index;
+        private final int queueCapacity;
+        private final Counter dropped;
+        private volatile ThreadPoolExecutor loop;
+
+        Shard(int index, int queueCapacity, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.queueCapacity = queueCapacity;
+            this.dropped = Counter.builder("websocket.broker.dropped")
+                    .tag("shard", Integer.toString(index))
+                    .register(meterRegistry);
+            Gauge.builder("websocket.broker.queue", this, shard -> shard.loop != null ? shard.loop.getQueue().size() : 0)
+                    .tag("shard", Integer.toString(index))
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            loop = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),   // bounded: a full queue rejects, so the cap is exact
+                    r -> {
+                        Thread thread = new Thread(r, "stomp-broker-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        /** Drains queued deliveries, then returns; subscriptions are kept for the next start. */
+        void stop() {
+            ThreadPoolExecutor current = loop;
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    current.shutdownNow();   // a stuck send: give up on the backlog rather than hang shutdown
+                    current.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException ex) {
+                current.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Publish/deliver: dropped (and counted) when the queue is full, or when the shard is stopping and
+         * another shard's publish still hands it a lane, rather than blocking or failing the caller.
+         */
+        void executeMessage(Runnable task) {
+            try {
+                loop.execute(task);
+            } catch (RejectedExecutionException ex) {
+                dropped.increment();
+            }
+        }
+
+        // ─── Publisher (hash of the destination) ───────────────────────
+
+        void publish(String destination, Message<?> message) {
+            destinations.match(destination, lanes -> {   // exact leaf plus every matching wildcard leaf
+                for (int lane = 0; lane < lanes.byLane().length; lane++) {
+                    Subscriber[] subscribers = lanes.byLane()[lane];
+                    if (subscribers.length > 0) {
+                        shards[lane].executeMessage(() -> deliver(subscribers, message));   // fan-out on every core
+                    }
+                }
+            });
+        }
+    }
+}
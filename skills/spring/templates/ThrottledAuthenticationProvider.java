@@ -0,0 +1,160 @@
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** ─── PROVIDER (ThrottledAuthenticationProvider.java) ─────────────── **/
+
+/**
+ * Wraps {@link DaoAuthenticationProvider}. A throttled attempt is rejected before the user query
+ * and before BCrypt, so a brute-force wave costs a map lookup instead of a DB round trip + ~100ms of CPU.
+ */
+public class ThrottledAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final LoginAttemptTracker tracker;
+
+    public ThrottledAuthenticationProvider(AuthenticationProvider delegate, LoginAttemptTracker tracker) {
+        this.delegate = delegate;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName().trim().toLowerCase(Locale.ROOT);
+        String ip = clientIp(authentication);
+
+        long retryAfterNanos = tracker.blockedFor(username, ip);
+        if (retryAfterNanos > 0) {
+            throw new LoginThrottledException(retryAfterNanos);
+        }
+
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            tracker.onSuccess(username);   // account only: one valid login must not clear an IP's record
+            return result;
+        } catch (BadCredentialsException ex) {   // also covers unknown users (hideUserNotFoundExceptions)
+            tracker.onFailure(username, ip);
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private static String clientIp(Authentication authentication) {
+        if (authentication.getDetails() instanceof WebAuthenticationDetails details) {
+            return details.getRemoteAddress();
+        }
+        // AuthenticationService builds the token without details: read the current request instead
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getRemoteAddr()
+                : null;
+    }
+
+    /** Mapped to 429 + Retry-After. Same response whether or not the account exists. */
+    public static class LoginThrottledException extends AuthenticationException {
+
+        private final long retryAfterSeconds;
+
+        public LoginThrottledException(long retryAfterNanos) {
+            super("Too many failed sign-in attempts. Please retry later.");
+            this.retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999));
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
+
+/** ─── TRACKER (LoginAttemptTracker.java) ──────────────────────────── **/
+
+/**
+ * Failed-login counters per account and per IP, one {@code AtomicLong} each.
+ * The long is the time at which every recorded failure is forgiven: each failure pushes it forward
+ * by {@code forgive-every}, and time passing drains it — a counter that decays without a sweeper thread.
+ */
+@Component
+@EnableConfigurationProperties(LoginAttemptTracker.LoginThrottleProperties.class)
+public class LoginAttemptTracker {
+
+    private final Window account;
+    private final Window ip;
+
+    public LoginAttemptTracker(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+        this.account = new Window("account", properties.perAccount(), properties.maxKeys(), meterRegistry);
+        this.ip = new Window("ip", properties.perIp(), properties.maxKeys(), meterRegistry);
+    }
+
+    /** Returns 0 if the attempt may proceed, otherwise the nanos until it may. */
+    public long blockedFor(String username, String clientIp) {
+        long now = System.nanoTime();
+        return Math.max(account.blockedFor(username, now), ip.blockedFor(clientIp, now));
+    }
+
+    public void onFailure(String username, String clientIp) {
+        long now = System.nanoTime();
+        account.recordFailure(username, now);
+        ip.recordFailure(clientIp, now);
+    }
+
+    public void onSuccess(String username) {
+        account.forgive(username);
+    }
+
+    private static final class Window {
+
+        private final Cache<String, AtomicLong> forgivenAt;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Counter blocked;
+
+        Window(String scope, Limit limit, long maxKeys, MeterRegistry meterRegistry) {
+            this.intervalNanos = limit.forgiveEvery().toNanos();
+            this.toleranceNanos = (limit.maxFailures() - 1) * intervalNanos;
+            this.forgivenAt = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(limit.forgiveEvery().multipliedBy(limit.maxFailures()))   // fully drained
+                    .build();
+            this.blocked = Counter.builder("login.throttled").tag("scope", scope).register(meterRegistry);
+        }
+
+        long blockedFor(String key, long now) {
+            AtomicLong state = key != null ? forgivenAt.getIfPresent(key) : null;   // no entry for clean keys
+            long over = state != null ? state.get() - now - toleranceNanos : 0;
+            if (over > 0) {
+                blocked.increment();
+                return over;
+            }
+            return 0;
+        }
+
+        void recordFailure(String key, long now) {
+            if (key != null) {
+                forgivenAt.get(key, k -> new AtomicLong(Long.MIN_VALUE))
+                        .accumulateAndGet(now, (current, time) -> Math.max(current, time) + intervalNanos);
+            }
+        }
+
+        void forgive(String key) {
+            forgivenAt.invalidate(key);
+        }
+    }
+
+    @ConfigurationProperties(prefix = "app.security.login-throttle")
+    public record LoginThrottleProperties(Limit perAccount,
+                                          Limit perIp,
+                                          @DefaultValue("100000") long maxKeys) {
+
+        public LoginThrottleProperties {
+            perAccount = perAccount != null ? perAccount : new Limit(5, Duration.ofMinutes(1));
+            perIp = perIp != null ? perIp : new Limit(50, Duration.ofSeconds(6));
+        }
+    }
+
+    public record Limit(int maxFailures, Duration forgiveEvery) {
+    }
+}
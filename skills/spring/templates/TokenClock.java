@@ -0,0 +1,71 @@
+/** ─── INTERFACE (TokenClock.java) ─────────────────────────────────── **/
+
+/**
+ * Time source for token issue and expiry checks.
+ * Inject it instead of calling {@code System.currentTimeMillis()} / {@code new Date()} so tests can pin time.
+ */
+public interface TokenClock {
+
+    long currentTimeMillis();
+
+    default long epochSecond() {
+        return currentTimeMillis() / 1000;
+    }
+
+    /** Adapter for {@code Jwts.parser().clock(...)} so jjwt's own exp/nbf checks use the same time. */
+    default io.jsonwebtoken.Clock asJjwtClock() {
+        return () -> new Date(currentTimeMillis());
+    }
+}
+
+/** ─── IMPLEMENTATION (CachedTokenClock.java) ──────────────────────── **/
+
+/**
+ * Coarse clock: one daemon thread refreshes a volatile field every tick.
+ * Reads are a plain volatile load, no syscall and no allocation.
+ */
+@Component
+public class CachedTokenClock implements TokenClock, DisposableBean {
+
+    private final ScheduledExecutorService ticker;
+    private volatile long now = System.currentTimeMillis();
+
+    public CachedTokenClock(@Value("${jwt.clock.tick-ms:1}") long tickMs) {
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> now = System.currentTimeMillis(), tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+    }
+}
+
+/** ─── TEST DOUBLE (MutableTokenClock.java, src/test) ──────────────── **/
+
+public class MutableTokenClock implements TokenClock {
+
+    private long now;
+
+    public MutableTokenClock(Instant start) {
+        this.now = start.toEpochMilli();
+    }
+
+    public void advance(Duration duration) {
+        now += duration.toMillis();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+}
@@ -0,0 +1,144 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Authorization rules compiled at startup into a path-segment trie.
+ * Lookup walks the request path once (O(depth)) instead of testing every pattern in order,
+ * and still returns the FIRST declared rule that matches — same semantics as {@code requestMatchers()}.
+ *
+ * <p>Supported segments: literals, {@code *}, {@code {var}} and a trailing {@code **}.
+ * Anything else (partial wildcards, {@code {id:\d+}} regex variables) fails at startup rather than matching loosely.
+ */
+public final class TrieAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private final Node root;
+    private final AuthorizationManager<RequestAuthorizationContext> fallback;
+
+    private TrieAuthorizationManager(Node root, AuthorizationManager<RequestAuthorizationContext> fallback) {
+        this.root = root;
+        this.fallback = fallback;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static AuthorizationManager<RequestAuthorizationContext> permitAll() {
+        return (authentication, context) -> GRANTED;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        // Decoded and normalized like Spring's matchers and MVC mapping: the raw URI would let
+        // "/api/%61dmin/users" miss "/api/admin/**" and still reach the admin controller
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        Rule rule = find(root, segments(path), 0, request.getMethod(), null);
+        return (rule != null ? rule.manager : fallback).check(authentication, context);
+    }
+
+    private static Rule find(Node node, String[] segments, int depth, String method, Rule best) {
+        if (best != null && best.order < node.minOrder) {
+            return best;   // nothing below this node was declared earlier than the current match
+        }
+        best = first(best, node.rest, method);   // "/**" also matches the node's own path
+        if (depth == segments.length) {
+            return first(best, node.exact, method);
+        }
+        Node literal = node.literals.get(segments[depth]);
+        if (literal != null) {
+            best = find(literal, segments, depth + 1, method, best);
+        }
+        if (node.wildcard != null) {
+            best = find(node.wildcard, segments, depth + 1, method, best);
+        }
+        return best;
+    }
+
+    private static Rule first(Rule best, List<Rule> candidates, String method) {
+        for (Rule rule : candidates) {   // sorted by declaration order
+            if (best != null && best.order < rule.order) {
+                break;
+            }
+            if (rule.method == null || rule.method.equals(method)) {
+                return rule;
+            }
+        }
+        return best;
+    }
+
+    // Manual split: no regex, no empty segments ("/api//x/" == "/api/x")
+    static String[] segments(String path) {
+        List<String> segments = new ArrayList<>(8);
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments.toArray(String[]::new);
+    }
+
+    private record Rule(int order, String method, AuthorizationManager<RequestAuthorizationContext> manager) {
+    }
+
+    private static final class Node {
+
+        final Map<String, Node> literals = new HashMap<>();
+        Node wildcard;                                   // "*" or "{var}"
+        final List<Rule> exact = new ArrayList<>(1);     // pattern ends here
+        final List<Rule> rest = new ArrayList<>(1);      // pattern ends here with "/**"
+        int minOrder = Integer.MAX_VALUE;                // earliest rule at or below this node
+    }
+
+    public static final class Builder {
+
+        private final Node root = new Node();
+        private int order;
+
+        public Builder rule(String pattern, AuthorizationManager<RequestAuthorizationContext> manager) {
+            return rule(null, pattern, manager);
+        }
+
+        public Builder rule(HttpMethod method, String pattern, AuthorizationManager<RequestAuthorizationContext> manager) {
+            Rule rule = new Rule(order++, method != null ? method.name() : null, manager);
+            String[] segments = segments(pattern);
+            Node node = root;
+            node.minOrder = Math.min(node.minOrder, rule.order);
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.equals("**")) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' is only supported at the end: " + pattern);
+                    }
+                    node.rest.add(rule);
+                    return this;
+                }
+                boolean variable = segment.startsWith("{") && segment.endsWith("}") && segment.indexOf(':') < 0;
+                if (segment.equals("*") || variable) {
+                    node = node.wildcard != null ? node.wildcard : (node.wildcard = new Node());
+                } else if (segment.indexOf('*') >= 0 || segment.indexOf('{') >= 0 || segment.indexOf('?') >= 0) {
+                    throw new IllegalArgumentException("Partial wildcards are not supported: " + pattern);
+                } else {
+                    node = node.literals.computeIfAbsent(segment, s -> new Node());
+                }
+                node.minOrder = Math.min(node.minOrder, rule.order);
+            }
+            node.exact.add(rule);
+            return this;
+        }
+
+        /** Applied when no rule matches, like {@code anyRequest()}. */
+        public TrieAuthorizationManager anyRequest(AuthorizationManager<RequestAuthorizationContext> fallback) {
+            return new TrieAuthorizationManager(root, fallback);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.config;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@code SubscriptionRegistry} for Spring's simple broker, backed by a {@link DestinationTrie}.
+ *
+ * <p>{@code DefaultSubscriptionRegistry} caches resolved destinations (1024 by default); a miss scans
+ * every session's subscriptions, and every subscribe/unsubscribe invalidates cache entries. With many
+ * distinct destinations (one per room/user) lookups degrade with the subscription count. Here a lookup
+ * walks the destination's segments and reads immutable arrays, whatever the subscription count.
+ *
+ * <p>Not supported: the {@code selector} header (SpEL filtering per subscription). Use
+ * {@code subscription-index: DEFAULT} if clients rely on it.
+ */
+public class TrieSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    private final DestinationTrie<Subscriber[]> destinations = new DestinationTrie<>();
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();   // session -> sub id -> destination
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId,
+                                           String destination, Message<?> message) {
+        String previous = sessions.computeIfAbsent(sessionId, s -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        Subscriber subscriber = new Subscriber(sessionId, subscriptionId);
+        if (previous != null) {
+            destinations.update(previous, current -> without(current, subscriber));   // re-used subscription id
+        }
+        destinations.update(destination, current -> with(current, subscriber));
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        String destination = subscriptions != null ? subscriptions.remove(subscriptionId) : null;
+        if (destination != null) {
+            Subscriber subscriber = new Subscriber(sessionId, subscriptionId);
+            destinations.update(destination, current -> without(current, subscriber));
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.forEach((subscriptionId, destination) -> {
+                Subscriber subscriber = new Subscriber(sessionId, subscriptionId);
+                destinations.update(destination, current -> without(current, subscriber));
+            });
+        }
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        MultiValueMap<String, String> result = new LinkedMultiValueMap<>();   // session id -> subscription ids
+        destinations.match(destination, subscribers -> {
+            for (Subscriber subscriber : subscribers) {
+                result.add(subscriber.sessionId(), subscriber.subscriptionId());
+            }
+        });
+        return result;
+    }
+
+    // ─── Copy-on-write leaf arrays ─────────────────────────────────────
+
+    private static Subscriber[] with(Subscriber[] current, Subscriber subscriber) {
+        Subscriber[] base = current != null ? current : NO_SUBSCRIBERS;
+        Subscriber[] copy = Arrays.copyOf(base, base.length + 1);
+        copy[base.length] = subscriber;
+        return copy;
+    }
+
+    private static Subscriber[] without(Subscriber[] current, Subscriber subscriber) {
+        if (current == null) {
+            return null;
+        }
+        Subscriber[] remaining = Arrays.stream(current)
+                .filter(s -> !s.equals(subscriber))
+                .toArray(Subscriber[]::new);
+        return remaining.length > 0 ? remaining : null;   // null prunes the trie node
+    }
+
+    private record Subscriber(String sessionId, String subscriptionId) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.config;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.user.UserDestinationResolver;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+/**
+ * Replaces {@code @EnableWebSocketMessageBroker}: same infrastructure, but the broker bean is chosen
+ * by {@code app.websocket.broker.mode}. {@link WebSocketConfig} stays a plain configurer.
+ * In RELAY mode no in-process broker is registered and the parent creates the relay handler.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(WebSocketBrokerConfiguration.WebSocketBrokerProperties.class)
+public class WebSocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final WebSocketBrokerProperties properties;
+    private final WebSocketChannelExecutor.WebSocketChannelProperties channelProperties;
+    private final MeterRegistry meterRegistry;
+
+    public WebSocketBrokerConfiguration(WebSocketBrokerProperties properties,
+                                        WebSocketChannelExecutor.WebSocketChannelProperties channelProperties,
+                                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.channelProperties = channelProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    @Nullable
+    @Override
+    public AbstractBrokerMessageHandler simpleBrokerMessageHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel,
+            @Qualifier("brokerChannel") AbstractSubscribableChannel brokerChannel,
+            UserDestinationResolver userDestinationResolver) {
+
+        if (properties.mode() != BrokerMode.SHARDED) {
+            AbstractBrokerMessageHandler handler = super.simpleBrokerMessageHandler(
+                    clientInboundChannel, clientOutboundChannel, brokerChannel, userDestinationResolver);
+            if (handler instanceof SimpleBrokerMessageHandler simple
+                    && properties.subscriptionIndex() == SubscriptionIndex.TRIE) {
+                simple.setSubscriptionRegistry(new TrieSubscriptionRegistry());
+            }
+            return handler;
+        }
+        ShardedBrokerMessageHandler sharded = new ShardedBrokerMessageHandler(clientInboundChannel,
+                clientOutboundChannel, brokerChannel,
+                properties.destinationPrefixes(), properties.shards(), properties.queueCapacity(), meterRegistry);
+        // Built here, not by the registry: apply what MessageBrokerRegistry.setPreservePublishOrder would
+        sharded.setPreservePublishOrder(channelProperties.outbound().preserveOrder());
+        return sharded;
+    }
+
+    public enum BrokerMode {
+        SIMPLE,    // Spring's SimpleBrokerMessageHandler: one registry, one delivery path
+        SHARDED,   // ShardedBrokerMessageHandler: N single-writer shards, always trie-indexed
+        RELAY      // StompBrokerRelayMessageHandler: external broker, required for more than one node
+    }
+
+    public enum SubscriptionIndex {
+        DEFAULT,   // Spring's DefaultSubscriptionRegistry: supports the "selector" header
+        TRIE       // TrieSubscriptionRegistry: lookup cost independent of the subscription count
+    }
+
+    @ConfigurationProperties(prefix = "app.websocket.broker")
+    public record WebSocketBrokerProperties(@DefaultValue("SHARDED") BrokerMode mode,
+                                            @DefaultValue({"/topic", "/queue"}) List<String> destinationPrefixes,
+                                            @DefaultValue("0") int shards,              // 0 = one per core
+                                            @DefaultValue("100000") int queueCapacity,
+                                            @DefaultValue("TRIE") SubscriptionIndex subscriptionIndex,   // SIMPLE mode only
+                                            @DefaultValue Relay relay) {                                 // RELAY mode only
+    }
+
+    public record Relay(@DefaultValue("localhost:61613") List<String> addresses,   // host[:port], rotated per connection
+                        @DefaultValue("guest") String clientLogin,
+                        @DefaultValue("guest") String clientPasscode,
+                        @DefaultValue("guest") String systemLogin,
+                        @DefaultValue("guest") String systemPasscode,
+                        @Nullable String virtualHost,
+                        @DefaultValue("20s") Duration systemHeartbeat) {
+
+        static final int DEFAULT_STOMP_PORT = 61613;
+
+        /** Fails at startup on a malformed address rather than on the first relay connection. */
+        public Relay {
+            if (addresses.isEmpty()) {
+                throw new IllegalArgumentException("app.websocket.broker.relay.addresses must not be empty");
+            }
+            addresses.forEach(Relay::parseAddress);
+        }
+
+        /** {@code addresses} as unresolved socket addresses: DNS is looked up per connection, not once. */
+        public List<InetSocketAddress> brokers() {
+            return addresses.stream().map(Relay::parseAddress).toList();
+        }
+
+        /**
+         * Accepts {@code host}, {@code host:port}, {@code [ipv6]}, {@code [ipv6]:port} and a bare IPv6 literal
+         * (more than one ':', no port). The port defaults to {@value #DEFAULT_STOMP_PORT}.
+         */
+        static InetSocketAddress parseAddress(String address) {
+            String value = address.trim();
+            String host = value;
+            String port = null;
+            if (value.startsWith("[")) {
+                int close = value.indexOf(']');
+                if (close < 0 || close + 1 < value.length() && value.charAt(close + 1) != ':') {
+                    throw new IllegalArgumentException("Invalid relay address (expected [ipv6]:port): " + address);
+                }
+                host = value.substring(1, close);
+                port = close + 1 < value.length() ? value.substring(close + 2) : null;
+            } else {
+                int colon = value.lastIndexOf(':');
+                if (colon >= 0 && value.indexOf(':') == colon) {   // exactly one ':' = host:port
+                    host = value.substring(0, colon);
+                    port = value.substring(colon + 1);
+                }
+            }
+            if (host.isEmpty()) {
+                throw new IllegalArgumentException("Invalid relay address (missing host): " + address);
+            }
+            return InetSocketAddress.createUnresolved(host, port != null ? parsePort(port, address) : DEFAULT_STOMP_PORT);
+        }
+
+        private static int parsePort(String port, String address) {
+            try {
+                int value = Integer.parseInt(port);
+                if (value >= 1 && value <= 65535) {
+                    return value;
+                }
+            } catch (NumberFormatException ignored) {
+                // reported below with the full address
+            }
+            throw new IllegalArgumentException("Invalid relay address (port must be 1-65535): " + address);
+        }
+    }
+}
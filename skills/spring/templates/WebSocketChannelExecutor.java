@@ -0,0 +1,162 @@
+package com.example.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for {@code clientInboundChannel} / {@code clientOutboundChannel}: fixed size, bounded queue,
+ * explicit rejection policy, and metrics. Spring's default is cores x 2 threads with an unbounded queue,
+ * so a burst of slow {@code @MessageMapping} calls queues every other client's frames behind it.
+ *
+ * <p>VIRTUAL mode is not a pool: {@link #forChannel} returns a {@link VirtualChannelExecutor} that starts
+ * one virtual thread per task, so handlers that block on the database park instead of holding a platform
+ * thread. A concurrency limit, not a pool size, caps how many handlers run at once. PLATFORM mode runs on
+ * any JDK; VIRTUAL mode fails at startup with a clear message below JDK 21.
+ */
+public class WebSocketChannelExecutor extends ThreadPoolTaskExecutor {
+
+    private final String channel;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    /** This pool for PLATFORM, a per-task virtual-thread executor for VIRTUAL. */
+    public static Executor forChannel(String channel, Settings settings, MeterRegistry meterRegistry) {
+        return settings.mode() == ThreadMode.VIRTUAL
+                ? new VirtualChannelExecutor(channel, settings, meterRegistry)
+                : new WebSocketChannelExecutor(channel, settings, meterRegistry);
+    }
+
+    private WebSocketChannelExecutor(String channel, Settings settings, MeterRegistry meterRegistry) {
+        this.channel = channel;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("websocket.channel.rejected")
+                .tag("channel", channel)
+                .register(meterRegistry);
+
+        int threads = settings.threads() > 0 ? settings.threads() : Runtime.getRuntime().availableProcessors() * 2;
+        setCorePoolSize(threads);
+        setMaxPoolSize(threads);   // the queue is bounded: never grow past core, reject instead
+        setQueueCapacity(settings.queueCapacity());
+        RejectedExecutionHandler policy = settings.rejection().handler();
+        setRejectedExecutionHandler((task, executor) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, executor);
+        });
+    }
+
+    /** Called by Spring when the channel executor bean is initialized: bind metrics to the real pool. */
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory,
+                                                 RejectedExecutionHandler rejectedExecutionHandler) {
+        ExecutorService executor = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+        // executor.queued / executor.active / executor.queue.remaining tagged name=websocket-<channel>
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "websocket-" + channel);
+        Gauge.builder("websocket.channel.saturation", getThreadPoolExecutor(), WebSocketChannelExecutor::saturation)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * One virtual thread per task, nothing pooled or kept alive. {@code threads} (default: {@code queueCapacity},
+     * the in-flight bound of a PLATFORM pool) caps running handlers; at the limit the sender blocks until one
+     * finishes, which is CALLER_RUNS-style back-pressure on that connection only.
+     */
+    static final class VirtualChannelExecutor extends SimpleAsyncTaskExecutor {
+
+        private final AtomicInteger running = new AtomicInteger();
+
+        VirtualChannelExecutor(String channel, Settings settings, MeterRegistry meterRegistry) {
+            super("ws-" + channel + "-");
+            try {
+                setVirtualThreads(true);
+            } catch (UnsupportedOperationException ex) {
+                throw new IllegalStateException("app.websocket.channels.*.mode=VIRTUAL requires JDK 21+, running on "
+                        + Runtime.version() + ". Use mode=PLATFORM or upgrade the JDK.", ex);
+            }
+            int limit = settings.threads() > 0 ? settings.threads() : settings.queueCapacity();
+            setConcurrencyLimit(limit);
+            setTaskDecorator(task -> () -> {
+                running.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+            Gauge.builder("websocket.channel.saturation", running, count -> (double) count.get() / limit)
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+        }
+    }
+
+    /** 0.0 = idle, 1.0 = every thread busy and the queue full (next task is rejected). */
+    private static double saturation(ThreadPoolExecutor pool) {
+        int capacity = pool.getMaximumPoolSize() + pool.getQueue().size() + pool.getQueue().remainingCapacity();
+        return (double) (pool.getActiveCount() + pool.getQueue().size()) / capacity;
+    }
+
+    public enum ThreadMode {
+        PLATFORM,   // pooled OS threads: CPU-bound handlers
+        VIRTUAL     // one virtual thread per task, concurrency-limited: handlers that block on I/O
+    }
+
+    public enum Rejection {
+        CALLER_RUNS(new ThreadPoolExecutor.CallerRunsPolicy()),   // back-pressure on the sender only
+        ABORT(new ThreadPoolExecutor.AbortPolicy()),              // sender gets MessageDeliveryException
+        DISCARD(new ThreadPoolExecutor.DiscardPolicy());          // dropped, counted only; needs preserveOrder=false
+
+        private final RejectedExecutionHandler handler;
+
+        Rejection(RejectedExecutionHandler handler) {
+            this.handler = handler;
+        }
+
+        RejectedExecutionHandler handler() {
+            return handler;
+        }
+    }
+
+    public record Settings(@DefaultValue("PLATFORM") ThreadMode mode,
+                           @DefaultValue("0") int threads,                  // 0 = cores x 2 (PLATFORM) or queueCapacity (VIRTUAL)
+                           @DefaultValue("10000") int queueCapacity,
+                           @DefaultValue("CALLER_RUNS") Rejection rejection,
+                           @DefaultValue("true") boolean preserveOrder) {   // per-session order across threads
+
+        /**
+         * With preserveOrder, Spring releases a session's next message only when the previous task completes.
+         * A discarded task never runs, so that session would stall for good; CALLER_RUNS and ABORT both
+         * complete (run, or fail back to the sender), so they are the only policies allowed with ordering.
+         */
+        public Settings {
+            if (mode == ThreadMode.VIRTUAL && rejection != Rejection.CALLER_RUNS) {
+                throw new IllegalArgumentException(
+                        "mode=VIRTUAL has no queue to reject from: at the concurrency limit the sender waits, "
+                        + "so only rejection=CALLER_RUNS applies");
+            }
+            if (preserveOrder && rejection == Rejection.DISCARD) {
+                throw new IllegalArgumentException(
+                        "rejection=DISCARD cannot be combined with preserve-order=true: a discarded task "
+                        + "never completes and the session's later messages would wait forever");
+            }
+        }
+    }
+
+    @ConfigurationProperties(prefix = "app.websocket.channels")
+    public record WebSocketChannelProperties(@DefaultValue Settings inbound,
+                                             @DefaultValue Settings outbound) {
+    }
+}
@@ -1,30 +1,60 @@
 package com.example.config;
 
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 /**
  * Standard WebSocket Configuration using STOMP.
+ * The broker itself (simple, sharded or relay) is chosen in {@link WebSocketBrokerConfiguration}.
  */
 @Configuration
-@EnableWebSocketMessageBroker
+@EnableConfigurationProperties(WebSocketChannelExecutor.WebSocketChannelProperties.class)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketBrokerConfiguration.WebSocketBrokerProperties brokerProperties;
+    private final WebSocketChannelExecutor.WebSocketChannelProperties channelProperties;
+    private final MeterRegistry meterRegistry;
+
+    public WebSocketConfig(WebSocketBrokerConfiguration.WebSocketBrokerProperties brokerProperties,
+                           WebSocketChannelExecutor.WebSocketChannelProperties channelProperties,
+                           MeterRegistry meterRegistry) {
+        this.brokerProperties = brokerProperties;
+        this.channelProperties = channelProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // /topic for Broadcast (1-to-many)
         // /queue for Private (1-to-1)
-        config.enableSimpleBroker("/topic", "/queue");
+        String[] prefixes = brokerProperties.destinationPrefixes().toArray(String[]::new);
+        if (brokerProperties.mode() == WebSocketBrokerConfiguration.BrokerMode.RELAY) {
+            configureRelay(config, prefixes, brokerProperties.relay());
+        } else {
+            // Used as-is in SIMPLE mode; the sharded broker reads the same prefixes
+            config.enableSimpleBroker(prefixes);
+        }
 
         // Prefix for messages originating from the client
         config.setApplicationDestinationPrefixes("/app");
 
         // Prefix for private messages (SendToUser)
         config.setUserDestinationPrefix("/user");
+
+        // Outbound executor is multi-threaded: keep each session's messages in publish order
+        config.setPreservePublishOrder(channelProperties.outbound().preserveOrder());
     }
 
     @Override
@@ -32,11 +62,54 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("*") // In production, limit this to your frontend domain
                 .withSockJS(); // Enables fallback options for older browsers
+
+        // Inbound executor is multi-threaded: handle each session's frames in receive order
+        registry.setPreserveReceiveOrder(channelProperties.inbound().preserveOrder());
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        // @MessageMapping handlers run here: bounded, so one slow handler type can't queue every client's frames
+        registration.executor(WebSocketChannelExecutor.forChannel("inbound", channelProperties.inbound(), meterRegistry));
+
         // Add interceptors for security (e.g., JWT validation on CONNECT frames)
         // registration.interceptors(myAuthInterceptor);
     }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Writes to client sessions; slow clients are handled by the send buffer/time limits, not this pool
+        registration.executor(WebSocketChannelExecutor.forChannel("outbound", channelProperties.outbound(), meterRegistry));
+    }
+
+    /**
+     * Multi-node mode: every node relays to the same external broker (RabbitMQ, ActiveMQ Artemis), which
+     * does the fan-out. STOMP needs one broker connection per client session, so there is no connection
+     * pool to size: all connections share one Netty event loop group, and new connections rotate over
+     * {@code relay.addresses} to spread sessions across a broker cluster.
+     */
+    private void configureRelay(MessageBrokerRegistry config, String[] prefixes,
+                                WebSocketBrokerConfiguration.Relay relay) {
+        config.enableStompBrokerRelay(prefixes)
+                .setTcpClient(relayTcpClient(relay.brokers()))
+                .setClientLogin(relay.clientLogin())
+                .setClientPasscode(relay.clientPasscode())
+                .setSystemLogin(relay.systemLogin())
+                .setSystemPasscode(relay.systemPasscode())
+                .setVirtualHost(relay.virtualHost())
+                // Shared "system" connection: longer heartbeats = fewer idle frames, slower dead-broker detection
+                .setSystemHeartbeatSendInterval(relay.systemHeartbeat().toMillis())
+                .setSystemHeartbeatReceiveInterval(relay.systemHeartbeat().toMillis())
+                // convertAndSendToUser() for a user connected to another node goes through the broker
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+    }
+
+    private static ReactorNettyTcpClient<byte[]> relayTcpClient(List<InetSocketAddress> brokers) {
+        AtomicInteger next = new AtomicInteger();
+        return new ReactorNettyTcpClient<>(client -> client
+                .remoteAddress(() -> brokers.get(Math.floorMod(next.getAndIncrement(), brokers.size())))
+                .option(ChannelOption.TCP_NODELAY, true),   // small frames: don't wait for Nagle
+                new StompReactorNettyCodec());
+    }
 }
@@ -0,0 +1,74 @@
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Rule lookup cost: Spring's ordered matcher list vs the compiled path trie, as the rule count grows.
+ * Requests hit the first rule, the last rule, and no rule (falls through to anyRequest()).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationRulesBenchmark {
+
+    @Param({"20", "200", "500"})
+    private int rules;
+
+    @Param({"first", "last", "none"})
+    private String target;
+
+    private RequestMatcherDelegatingAuthorizationManager linear;
+    private TrieAuthorizationManager trie;
+    private MockHttpServletRequest request;
+    private RequestAuthorizationContext context;
+    private final Supplier<Authentication> authentication =
+            () -> new TestingAuthenticationToken("user", "n/a", "ROLE_STUDENT");
+
+    @Setup
+    public void setup() {
+        RequestMatcherDelegatingAuthorizationManager.Builder linearBuilder =
+                RequestMatcherDelegatingAuthorizationManager.builder();
+        TrieAuthorizationManager.Builder trieBuilder = TrieAuthorizationManager.builder();
+
+        // Same rules, same order: /api/module{i}/... with a mix of methods, roles and wildcards
+        for (int i = 0; i < rules; i++) {
+            HttpMethod method = i % 3 == 0 ? HttpMethod.GET : null;
+            String pattern = i % 2 == 0
+                    ? "/api/module" + i + "/items/{id}"
+                    : "/api/module" + i + "/**";
+            AuthorizationManager<RequestAuthorizationContext> manager = i % 4 == 0
+                    ? TrieAuthorizationManager.permitAll()
+                    : AuthorityAuthorizationManager.hasRole("ADMIN");
+
+            linearBuilder.add(method != null
+                    ? AntPathRequestMatcher.antMatcher(method, pattern)
+                    : AntPathRequestMatcher.antMatcher(pattern), manager);
+            trieBuilder.rule(method, pattern, manager);
+        }
+        linearBuilder.add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated());
+        linear = linearBuilder.build();
+        trie = trieBuilder.anyRequest(AuthenticatedAuthorizationManager.authenticated());
+
+        String uri = switch (target) {
+            case "first" -> "/api/module0/items/42";
+            case "last" -> "/api/module" + (rules - 1) + "/items/42";
+            default -> "/api/unknown/items/42";
+        };
+        request = new MockHttpServletRequest("GET", uri);
+        context = new RequestAuthorizationContext(request);
+    }
+
+    @Benchmark
+    public AuthorizationDecision linearMatchers() {
+        return linear.check(authentication, request);
+    }
+
+    @Benchmark
+    public AuthorizationDecision compiledTrie() {
+        return trie.check(authentication, context);
+    }
+}
@@ -0,0 +1,63 @@
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Sign/verify throughput per algorithm, to pick HMAC vs asymmetric per deployment.
+ * Keys and parsers are built in @Setup so only the crypto + serialization is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"HS256", "EdDSA", "ES256"})
+    private String algorithm;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        switch (algorithm) {
+            case "HS256" -> {
+                SecretKey key = Jwts.SIG.HS256.key().build();
+                signingKey = key;
+                parser = Jwts.parser().verifyWith(key).build();
+            }
+            case "EdDSA" -> useKeyPair(Jwks.CRV.Ed25519.keyPair().build());
+            case "ES256" -> useKeyPair(Jwts.SIG.ES256.keyPair().build());
+            default -> throw new IllegalArgumentException(algorithm);
+        }
+        token = sign();
+    }
+
+    private void useKeyPair(KeyPair pair) {
+        signingKey = pair.getPrivate();
+        parser = Jwts.parser().verifyWith(pair.getPublic()).build();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwts.builder()
+                .subject("user@example.com")
+                .claim("role", "STUDENT")
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
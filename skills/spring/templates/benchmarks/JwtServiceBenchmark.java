@@ -0,0 +1,96 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Throughput of the real JwtService issue/verify path.
+ * Run with {@code -prof gc} to get the allocation rate (gc.alloc.rate.norm = bytes per op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx1g")
+public class JwtServiceBenchmark {
+
+    @Param({"HS256", "HS512"})
+    private String algorithm;
+
+    @Param({"small", "large"})
+    private String claims;
+
+    private String secret;
+    private JwtService jwtService;
+    private UserDetails user;
+    private Map<String, Object> extraClaims;
+    private String token;
+
+    @Setup
+    public void setup() {
+        SecretKey key = "HS512".equals(algorithm)
+                ? Jwts.SIG.HS512.key().build()
+                : Jwts.SIG.HS256.key().build();
+        secret = Encoders.BASE64.encode(key.getEncoded());
+
+        JwtKeyRing keyRing = new JwtKeyRing(
+                new JwtKeyRing.JwtKeyProperties("HMAC", "bench", Map.of("bench", secret), Map.of()),
+                List.of(new HmacKeyStrategy()));
+        // maximum-size 0 disables the verified-token cache: measure the real verify + parse
+        TokenClock clock = System::currentTimeMillis;
+        jwtService = new JwtService(keyRing, new VerifiedTokenCache(0, new SimpleMeterRegistry(), clock), clock);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+
+        user = User.withUsername("student@example.com").password("n/a").roles("STUDENT").build();
+        extraClaims = "large".equals(claims) ? largeClaims() : Map.of("role", "STUDENT");
+        token = jwtService.generateToken(extraClaims, user);
+    }
+
+    // ─── Issue ─────────────────────────────────────────────────────────────
+
+    @Benchmark
+    public String issue() {
+        return jwtService.generateToken(extraClaims, user);
+    }
+
+    // ─── Verify: warm key (current JwtService) vs cold key (decode + build per call) ───
+
+    @Benchmark
+    @Threads(1)
+    public Object verifyWarmSingleThread() {
+        return jwtService.validate(token, false);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object verifyWarmAllCores() {
+        return jwtService.validate(token, false);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Claims verifyColdKey() {
+        // What getSignInKey() + Jwts.parser().build() per call used to cost
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static Map<String, Object> largeClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "STUDENT");
+        claims.put("fullName", "Nguyen Van A");
+        claims.put("studentId", 2_024_001L);
+        for (int i = 0; i < 20; i++) {
+            claims.put("perm_" + i, "module." + i + ".read");
+        }
+        return claims;
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Destination lookup cost: Spring's DefaultSubscriptionRegistry vs the trie-backed registry,
+ * as subscriptions grow to 100k. One destination per room, so the default registry's
+ * 1024-entry destination cache cannot hold them all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubscriptionRegistryBenchmark {
+
+    private static final int SUBSCRIBERS_PER_ROOM = 10;
+
+    @Param({"1000", "10000", "100000"})
+    private int subscriptions;
+
+    @Param({"DEFAULT", "TRIE"})
+    private String registryType;
+
+    private SubscriptionRegistry registry;
+    private Message<?>[] messages;
+    private int next;
+
+    @Setup
+    public void setup() {
+        registry = "TRIE".equals(registryType) ? new TrieSubscriptionRegistry() : new DefaultSubscriptionRegistry();
+        int rooms = subscriptions / SUBSCRIBERS_PER_ROOM;
+
+        // Exact room subscriptions plus one wildcard subscriber per 1000 rooms (e.g. a moderator view)
+        for (int i = 0; i < subscriptions; i++) {
+            registry.registerSubscription(subscribe("session-" + i, "sub-0", "/topic/room." + (i % rooms)));
+        }
+        for (int i = 0; i < rooms / 1000 + 1; i++) {
+            registry.registerSubscription(subscribe("moderator-" + i, "sub-0", "/topic/room.*"));
+        }
+
+        messages = new Message<?>[rooms];
+        for (int i = 0; i < rooms; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination("/topic/room." + i);
+            messages[i] = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        }
+    }
+
+    @Benchmark
+    public MultiValueMap<String, String> findSubscriptions() {
+        Message<?> message = messages[next];
+        next = (next + 1) % messages.length;   // rotate rooms: defeats a cache sized below the room count
+        return registry.findSubscriptions(message);
+    }
+
+    private static Message<?> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}